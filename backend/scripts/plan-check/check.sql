@@ -0,0 +1,160 @@
+-- Runs EXPLAIN (ANALYZE, BUFFERS) for every repository query, once with a custom and
+-- once with a generic plan (long-lived JDBC connections end up on generic plans),
+-- and fails when a plan sequentially scans activity_log or exceeds its buffer budget.
+-- Statements mirror the SQL Hibernate issues for ActivityLogRepository and
+-- TeamMemberRepository; keep them in sync when a repository method changes. Each
+-- label starts with the repository method name: run.sh refuses to run unless every
+-- declared or called repository method has at least one check here.
+
+CREATE TEMP TABLE plan_results (
+    label TEXT,
+    plan_mode TEXT,
+    top_node TEXT,
+    seq_scan BOOLEAN,
+    buffers BIGINT,
+    budget BIGINT
+);
+
+CREATE FUNCTION pg_temp.check_plan(label TEXT, statement TEXT, args TEXT, budget BIGINT) RETURNS VOID
+LANGUAGE plpgsql AS $fn$
+DECLARE
+    mode TEXT;
+    plan JSONB;
+BEGIN
+    EXECUTE format('PREPARE plan_check_stmt AS %s', statement);
+    FOREACH mode IN ARRAY ARRAY['force_custom_plan', 'force_generic_plan'] LOOP
+        PERFORM set_config('plan_cache_mode', mode, true);
+        EXECUTE 'EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) EXECUTE plan_check_stmt'
+                || CASE WHEN args = '' THEN '' ELSE '(' || args || ')' END
+            INTO plan;
+        INSERT INTO plan_results VALUES (
+            label,
+            mode,
+            plan -> 0 -> 'Plan' ->> 'Node Type',
+            jsonb_path_exists(plan, '$.** ? (@."Node Type" == "Seq Scan" && @."Relation Name" == "activity_log")'),
+            COALESCE((plan -> 0 -> 'Plan' ->> 'Shared Hit Blocks')::BIGINT, 0)
+                + COALESCE((plan -> 0 -> 'Plan' ->> 'Shared Read Blocks')::BIGINT, 0),
+            budget);
+    END LOOP;
+    DEALLOCATE plan_check_stmt;
+END
+$fn$;
+
+-- ActivityLogRepository
+
+SELECT pg_temp.check_plan(
+    'findByUsernameAndTimestampBetweenOrderByTimestampAsc (one day)',
+    $q$SELECT id, application_name, timestamp, username FROM activity_log
+       WHERE username = $1 AND timestamp BETWEEN $2 AND $3 ORDER BY timestamp ASC$q$,
+    $a$'tanmay_kudkar', date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '1 day',
+       date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '1 microsecond'$a$,
+    200);
+
+SELECT pg_temp.check_plan(
+    'findByUsernameAndTimestampBetweenOrderByTimestampAsc (presence, 3 minutes)',
+    $q$SELECT id, application_name, timestamp, username FROM activity_log
+       WHERE username = $1 AND timestamp BETWEEN $2 AND $3 ORDER BY timestamp ASC$q$,
+    $a$'tanmay_kudkar', date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '14 hours',
+       date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '14 hours' + INTERVAL '3 minutes'$a$,
+    20);
+
+SELECT pg_temp.check_plan(
+    'countByApplicationAndQuarterHour (one UTC day)',
+    $q$SELECT application_name,
+              CAST(EXTRACT(HOUR FROM timestamp) * 4 + FLOOR(EXTRACT(MINUTE FROM timestamp) / 15) AS INTEGER),
+              COUNT(*)
+       FROM activity_log
+       WHERE username = $1 AND timestamp >= $2 AND timestamp < $3
+       GROUP BY 1, 2$q$,
+    $a$'tanmay_kudkar', date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '1 day',
+       date_trunc('day', now() AT TIME ZONE 'UTC')$a$,
+    100);
+
+SELECT pg_temp.check_plan(
+    'countByDayAndApplication (one UTC day)',
+    $q$SELECT CAST(timestamp AS DATE), application_name, COUNT(*), MAX(timestamp)
+       FROM activity_log
+       WHERE username = $1 AND timestamp >= $2 AND timestamp < $3
+       GROUP BY 1, 2$q$,
+    $a$'tanmay_kudkar', date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '1 day',
+       date_trunc('day', now() AT TIME ZONE 'UTC')$a$,
+    100);
+
+SELECT pg_temp.check_plan(
+    'countByDayAndApplication (cold leaderboard year)',
+    $q$SELECT CAST(timestamp AS DATE), application_name, COUNT(*), MAX(timestamp)
+       FROM activity_log
+       WHERE username = $1 AND timestamp >= $2 AND timestamp < $3
+       GROUP BY 1, 2$q$,
+    $a$'tanmay_kudkar', date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '365 days',
+       date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '1 day'$a$,
+    1500);
+
+SELECT pg_temp.check_plan(
+    'save (insert heartbeat)',
+    $q$INSERT INTO activity_log (application_name, timestamp, username) VALUES ($1, $2, $3)$q$,
+    $a$'Code.exe', now() AT TIME ZONE 'UTC', 'tanmay_kudkar'$a$,
+    50);
+
+-- TeamMemberRepository (five rows, so only the buffer budgets matter)
+
+SELECT pg_temp.check_plan(
+    'findByUsername',
+    $q$SELECT * FROM team_member WHERE username = $1$q$,
+    $a$'tanmay_kudkar'$a$,
+    10);
+
+SELECT pg_temp.check_plan(
+    'findAll',
+    $q$SELECT * FROM team_member$q$,
+    '',
+    10);
+
+SELECT pg_temp.check_plan(
+    'findAllByOrderByTotalWorkingMinutesDesc',
+    $q$SELECT * FROM team_member ORDER BY total_working_minutes DESC$q$,
+    '',
+    10);
+
+SELECT pg_temp.check_plan(
+    'upsertHeartbeat',
+    $q$INSERT INTO team_member (username, full_name, total_working_minutes, is_currently_working,
+                                current_application, last_seen)
+       VALUES ($1, $2, 0, true, $3, $4)
+       ON CONFLICT (username) DO UPDATE SET
+           is_currently_working = true,
+           current_application = CASE WHEN team_member.is_currently_working
+                                      THEN team_member.current_application
+                                      ELSE EXCLUDED.current_application END,
+           last_seen = GREATEST(team_member.last_seen, EXCLUDED.last_seen)$q$,
+    $a$'tanmay_kudkar', 'Tanmay Kudkar', 'Code.exe', now() AT TIME ZONE 'UTC'$a$,
+    50);
+
+SELECT pg_temp.check_plan(
+    'addWorkingMinutes',
+    $q$UPDATE team_member SET total_working_minutes = COALESCE(total_working_minutes, 0) + $2
+       WHERE username = $1$q$,
+    $a$'tanmay_kudkar', 1$a$,
+    20);
+
+SELECT pg_temp.check_plan(
+    'markLoggedOut',
+    $q$UPDATE team_member SET is_currently_working = false, current_application = NULL
+       WHERE username = $1$q$,
+    $a$'tanmay_kudkar'$a$,
+    20);
+
+SELECT label, plan_mode, top_node, buffers, budget,
+       CASE WHEN seq_scan THEN 'FAIL: seq scan on activity_log'
+            WHEN buffers > budget THEN 'FAIL: over buffer budget'
+            ELSE 'ok' END AS result
+FROM plan_results
+ORDER BY label, plan_mode;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM plan_results WHERE seq_scan OR buffers > budget) THEN
+        RAISE EXCEPTION 'Query plan regression detected, see the table above';
+    END IF;
+END
+$$;
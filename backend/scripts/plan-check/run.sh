@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Query-plan regression check for the repository queries.
+#
+# Fails if a repository method has no check in check.sql. Then creates a scratch
+# database, applies the Flyway migrations, seeds ~300k heartbeats and fails if any
+# repository query falls back to a sequential scan on activity_log or reads more
+# buffers than its budget. Needs psql and a local PostgreSQL.
+#
+#   DATABASE_USERNAME=postgres DATABASE_PASSWORD=1234 ./scripts/plan-check/run.sh
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+MIGRATIONS_DIR="$SCRIPT_DIR/../../src/main/resources/db/migration"
+SOURCE_DIR="$SCRIPT_DIR/../../src/main/java"
+
+# Coverage guard: every query method declared on a repository interface, plus every
+# inherited JpaRepository method the code calls (save, findAll, ...), needs a check
+# labelled with its name in check.sql, and every label must name such a method.
+declared=$(grep -hoE '^ {4}[A-Za-z][A-Za-z0-9<>, ?]*(\[\])? +[a-z][A-Za-z0-9]*\(' \
+        "$SOURCE_DIR"/com/worktracker/repository/*.java | sed -E 's/.* ([a-z][A-Za-z0-9]*)\($/\1/')
+called=$(find "$SOURCE_DIR" -name '*.java' -exec cat {} + | tr -s ' \n\t' ' ' \
+        | grep -oE 'Repository ?\. ?[a-z][A-Za-z0-9]* ?\(' | sed -E 's/.*\. ?([a-z][A-Za-z0-9]*) ?\($/\1/')
+methods=$(printf '%s\n%s\n' "$declared" "$called" | sort -u | sed '/^$/d')
+labels=$(grep -A1 'pg_temp.check_plan($' "$SCRIPT_DIR/check.sql" | grep -oE "^ +'[a-zA-Z0-9]+" | tr -d " '" | sort -u)
+
+unchecked=$(comm -23 <(echo "$methods") <(echo "$labels"))
+stale=$(comm -13 <(echo "$methods") <(echo "$labels"))
+if [ -n "$unchecked" ] || [ -n "$stale" ]; then
+    [ -n "$unchecked" ] && echo "Repository methods without a plan check in check.sql:" && echo "$unchecked" | sed 's/^/  /'
+    [ -n "$stale" ] && echo "Plan checks for methods no repository has:" && echo "$stale" | sed 's/^/  /'
+    exit 1
+fi
+echo "Plan checks cover $(echo "$methods" | wc -l) repository methods"
+
+export PGHOST="${PGHOST:-localhost}"
+export PGPORT="${PGPORT:-5432}"
+export PGUSER="${DATABASE_USERNAME:-postgres}"
+export PGPASSWORD="${DATABASE_PASSWORD:-1234}"
+DB="${PLAN_CHECK_DB:-worktracker_plancheck}"
+
+PSQL=(psql -v ON_ERROR_STOP=1 -q -X)
+
+"${PSQL[@]}" -d postgres -c "DROP DATABASE IF EXISTS $DB" -c "CREATE DATABASE $DB"
+trap '"${PSQL[@]}" -d postgres -c "DROP DATABASE IF EXISTS $DB"' EXIT
+
+for migration in $(ls "$MIGRATIONS_DIR"/V*__*.sql | sort -V); do
+    echo "Applying $(basename "$migration")"
+    "${PSQL[@]}" -d "$DB" -f "$migration"
+done
+
+echo "Seeding..."
+"${PSQL[@]}" -d "$DB" -f "$SCRIPT_DIR/seed.sql"
+
+echo "Checking plans..."
+"${PSQL[@]}" -d "$DB" -f "$SCRIPT_DIR/check.sql"
@@ -0,0 +1,28 @@
+-- Realistic volume: 5 members, 60 days, a heartbeat every 30 s during a 10-hour
+-- working day (03:00-13:00 UTC, i.e. 08:30-18:30 IST) with ~10% of heartbeats
+-- missed. Heartbeats are inserted in time order, interleaved across members,
+-- the same way the trackers produce them. About 320k rows.
+
+INSERT INTO activity_log (username, application_name, timestamp)
+SELECT m.username,
+       (ARRAY['Code.exe', 'chrome.exe', 'Teams.exe', 'WindowsTerminal.exe', 'explorer.exe',
+              'idea64.exe', 'slack.exe', 'Spotify.exe'])[1 + floor(random() * 8)::int],
+       ts
+FROM generate_series(date_trunc('day', now() AT TIME ZONE 'UTC') - INTERVAL '59 days',
+                     date_trunc('day', now() AT TIME ZONE 'UTC') + INTERVAL '1 day' - INTERVAL '30 seconds',
+                     INTERVAL '30 seconds') AS ts
+CROSS JOIN (VALUES ('tanmay_kudkar'), ('yash_thakur'), ('nidhish_vartak'),
+                   ('atharva_raut'), ('parth_waghe')) AS m(username)
+WHERE EXTRACT(HOUR FROM ts) BETWEEN 3 AND 12
+  AND random() < 0.9
+ORDER BY ts;
+
+INSERT INTO team_member (username, full_name, total_working_minutes, is_currently_working,
+                         current_application, last_seen)
+SELECT username, initcap(replace(username, '_', ' ')), 0, true, NULL, max(timestamp)
+FROM activity_log
+GROUP BY username;
+
+-- Index-only scans need an up-to-date visibility map, as autovacuum would provide
+VACUUM ANALYZE activity_log;
+VACUUM ANALYZE team_member;
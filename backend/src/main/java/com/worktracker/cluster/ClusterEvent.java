@@ -0,0 +1,20 @@
+package com.worktracker.cluster;
+
+/**
+ * State change that every backend node should see. Sent to the other nodes through
+ * PostgreSQL NOTIFY and re-published there as a Spring application event.
+ *
+ * @param type    what changed
+ * @param key     the affected entity, usually a username, or null; must not contain '|'
+ * @param payload optional type-specific detail, or null
+ * @param remote  true when the event was received from another node
+ */
+public record ClusterEvent(Type type, String key, String payload, boolean remote) {
+
+    public enum Type {
+        /** Heartbeats stored by the sending node, one per line; lets every node run the same stream analysis. */
+        HEARTBEAT_BATCH,
+        /** The LISTEN connection was re-established; notifications may have been missed. */
+        RESYNC
+    }
+}
@@ -0,0 +1,158 @@
+package com.worktracker.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Receives {@link ClusterEvent}s from other nodes. Holds one dedicated connection
+ * (outside the Hikari pool) that LISTENs on the cluster channel and re-publishes each
+ * notification as a local application event. Events this node sent itself are skipped,
+ * since the sender delivers its own changes locally.
+ */
+@Component
+@Slf4j
+public class ClusterEventListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ClusterEventPublisher clusterEventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${worktracker.cluster.notify.enabled:true}")
+    private boolean notifyEnabled;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterEventListener(DataSourceProperties dataSourceProperties,
+            ClusterEventPublisher clusterEventPublisher,
+            ApplicationEventPublisher applicationEventPublisher) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.clusterEventPublisher = clusterEventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void start() {
+        if (!notifyEnabled) {
+            log.info("Cluster notifications disabled; running as a single node");
+            return;
+        }
+        String channel = clusterEventPublisher.getChannel();
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid cluster channel name: " + channel);
+        }
+        running = true;
+        listenerThread = new Thread(() -> listenLoop(channel), "cluster-event-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(POLL_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop(String channel) {
+        long backoffMs = 1000;
+        boolean reconnecting = false;
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cluster events on channel '{}' as node {}",
+                        channel, clusterEventPublisher.getNodeId());
+                backoffMs = 1000;
+
+                // Anything sent while we were disconnected is gone; let caches start over
+                if (reconnecting) {
+                    applicationEventPublisher.publishEvent(
+                            new ClusterEvent(ClusterEvent.Type.RESYNC, null, null, true));
+                }
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cluster event connection lost, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = payload.split("\\" + ClusterEventPublisher.PAYLOAD_SEPARATOR, 4);
+        if (parts.length < 3) {
+            log.warn("Ignoring malformed cluster event: {}", payload);
+            return;
+        }
+        if (parts[0].equals(clusterEventPublisher.getNodeId())) {
+            return;
+        }
+
+        ClusterEvent.Type type;
+        try {
+            type = ClusterEvent.Type.valueOf(parts[1]);
+        } catch (IllegalArgumentException e) {
+            // Sent by a newer node during a rolling deploy
+            log.debug("Ignoring unknown cluster event type: {}", parts[1]);
+            return;
+        }
+
+        try {
+            String eventPayload = parts.length == 4 && !parts[3].isEmpty() ? parts[3] : null;
+            String key = parts[2].isEmpty() ? null : parts[2];
+            applicationEventPublisher.publishEvent(new ClusterEvent(type, key, eventPayload, true));
+        } catch (RuntimeException e) {
+            log.error("Cluster event handler failed for {}", payload, e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.worktracker.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Sends {@link ClusterEvent}s to every other node listening on the same channel via
+ * pg_notify. Callers deliver the change to this node themselves. Call it outside any
+ * request transaction: PostgreSQL serialises the commits of all notifying transactions
+ * under one database-wide lock, so events should be batched rather than sent per write.
+ */
+@Component
+@Slf4j
+public class ClusterEventPublisher {
+
+    static final String PAYLOAD_SEPARATOR = "|";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${worktracker.cluster.channel:worktracker_events}")
+    private String channel;
+
+    @Value("${worktracker.cluster.notify.enabled:true}")
+    private boolean notifyEnabled;
+
+    public ClusterEventPublisher(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param key     the affected entity, or null
+     * @param payload type-specific detail, or null; together with the envelope it must
+     *                stay under PostgreSQL's 8000-byte NOTIFY limit
+     */
+    public void broadcast(ClusterEvent.Type type, String key, String payload) {
+        if (!notifyEnabled) {
+            return;
+        }
+        // Wire format: originNode|TYPE|key|payload - the payload goes last so it may contain the separator
+        String message = nodeId + PAYLOAD_SEPARATOR + type.name() + PAYLOAD_SEPARATOR + (key != null ? key : "")
+                + PAYLOAD_SEPARATOR + (payload != null ? payload : "");
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, message);
+    }
+
+    /** False when running as a single node, so callers can skip collecting events at all. */
+    public boolean isEnabled() {
+        return notifyEnabled;
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    String getChannel() {
+        return channel;
+    }
+}
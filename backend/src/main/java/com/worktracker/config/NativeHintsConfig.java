@@ -0,0 +1,48 @@
+package com.worktracker.config;
+
+import com.worktracker.dto.ActivityAlertDto;
+import com.worktracker.dto.ActivityLogRequest;
+import com.worktracker.dto.ApiResponse;
+import com.worktracker.dto.DailyDigestDto;
+import com.worktracker.dto.LeaderboardDto;
+import com.worktracker.dto.LeaderboardEntryDto;
+import com.worktracker.dto.MemberInsightsDto;
+import com.worktracker.dto.MemberSummaryDto;
+import com.worktracker.model.ActivityLog;
+import com.worktracker.model.TeamMember;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the GraalVM native image (mvn -Pnative native:compile).
+ * Controllers return DTOs wrapped in generic ApiResponse/List/Map types, which
+ * AOT cannot always see through, so the Jackson-bound types are listed here.
+ * On the JVM these hints are ignored.
+ */
+@Configuration
+@RegisterReflectionForBinding({
+        ApiResponse.class,
+        MemberSummaryDto.class,
+        MemberInsightsDto.class,
+        ActivityAlertDto.class,
+        DailyDigestDto.class,
+        LeaderboardDto.class,
+        LeaderboardEntryDto.class,
+        ActivityLogRequest.class
+})
+@ImportRuntimeHints(NativeHintsConfig.EntityHints.class)
+public class NativeHintsConfig {
+
+    static class EntityHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate instantiates entities and reads Lombok-generated accessors reflectively
+            hints.reflection().registerType(ActivityLog.class, MemberCategory.values());
+            hints.reflection().registerType(TeamMember.class, MemberCategory.values());
+        }
+    }
+}
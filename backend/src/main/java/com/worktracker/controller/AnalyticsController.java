@@ -2,14 +2,24 @@ package com.worktracker.controller;
 
 import com.worktracker.dto.ActivityLogRequest;
 import com.worktracker.dto.ApiResponse;
+import com.worktracker.dto.LeaderboardDto;
+import com.worktracker.dto.MemberInsightsDto;
 import com.worktracker.dto.MemberSummaryDto;
 import com.worktracker.service.ActivityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.time.zone.ZoneRulesException;
 import java.util.List;
 import java.util.Map;
 
@@ -31,37 +41,105 @@ public class AnalyticsController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboard(
             @PathVariable String username,
             @RequestParam(required = false) String date,
-            @RequestParam(required = false, defaultValue = "0") int tzOffsetMinutes) {
-        LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-        Map<String, Object> dashboard = activityService.getDashboard(username, targetDate,
-                clampTzOffsetMinutes(tzOffsetMinutes));
-        return ResponseEntity.ok(ApiResponse.success(dashboard));
+            @RequestParam(required = false) Integer tzOffsetMinutes,
+            @RequestParam(required = false) String tz,
+            @RequestParam(required = false, defaultValue = "false") boolean compact,
+            WebRequest webRequest) {
+        ZoneId zone = resolveZone(tz, tzOffsetMinutes);
+        LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now(zone);
+        // Answer polls with 304 before running any aggregation
+        if (webRequest.checkNotModified(activityService.getDashboardETag(username, targetDate, zone))) {
+            return null;
+        }
+        Map<String, Object> dashboard = activityService.getDashboard(username, targetDate, zone, compact);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiResponse.success(dashboard));
     }
 
     @GetMapping("/summary")
     public ResponseEntity<ApiResponse<List<MemberSummaryDto>>> getAllMembersSummary(
             @RequestParam(required = false) String date,
-            @RequestParam(required = false, defaultValue = "0") int tzOffsetMinutes) {
-        LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-        List<MemberSummaryDto> summaries = activityService.getAllMembersSummary(targetDate,
-                clampTzOffsetMinutes(tzOffsetMinutes));
-        return ResponseEntity.ok(ApiResponse.success(summaries));
+            @RequestParam(required = false) Integer tzOffsetMinutes,
+            @RequestParam(required = false) String tz,
+            WebRequest webRequest) {
+        ZoneId zone = resolveZone(tz, tzOffsetMinutes);
+        LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now(zone);
+        if (webRequest.checkNotModified(activityService.getSummaryETag(targetDate, zone))) {
+            return null;
+        }
+        List<MemberSummaryDto> summaries = activityService.getAllMembersSummary(targetDate, zone);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiResponse.success(summaries));
     }
 
     @GetMapping("/weekly-summary")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getWeeklySummary(
             @RequestParam(required = false) String date,
-            @RequestParam(required = false, defaultValue = "0") int tzOffsetMinutes) {
-        LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-        Map<String, Object> weeklySummary = activityService.getWeeklySummary(targetDate,
-                clampTzOffsetMinutes(tzOffsetMinutes));
-        return ResponseEntity.ok(ApiResponse.success(weeklySummary));
+            @RequestParam(required = false) Integer tzOffsetMinutes,
+            @RequestParam(required = false) String tz,
+            WebRequest webRequest) {
+        ZoneId zone = resolveZone(tz, tzOffsetMinutes);
+        LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now(zone);
+        if (webRequest.checkNotModified(activityService.getWeeklySummaryETag(targetDate, zone))) {
+            return null;
+        }
+        Map<String, Object> weeklySummary = activityService.getWeeklySummary(targetDate, zone);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiResponse.success(weeklySummary));
     }
 
-    private static int clampTzOffsetMinutes(int tzOffsetMinutes) {
+    @GetMapping("/insights")
+    public ResponseEntity<ApiResponse<List<MemberInsightsDto>>> getAllInsights() {
+        return ResponseEntity.ok(ApiResponse.success(activityService.getAllInsights()));
+    }
+
+    @GetMapping("/insights/{username}")
+    public ResponseEntity<ApiResponse<MemberInsightsDto>> getInsights(@PathVariable String username) {
+        return ResponseEntity.ok(ApiResponse.success(activityService.getInsights(username)));
+    }
+
+    /**
+     * Most used applications and categories across the team. Days are UTC calendar days;
+     * defaults to the last 7 days.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<ApiResponse<LeaderboardDto>> getLeaderboard(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        LocalDate toDate = to != null ? LocalDate.parse(to) : LocalDate.now(ZoneOffset.UTC);
+        LocalDate fromDate = from != null ? LocalDate.parse(from) : toDate.minusDays(6);
+        return ResponseEntity.ok(ApiResponse.success(activityService.getLeaderboard(fromDate, toDate, limit)));
+    }
+
+    /**
+     * Prefers an IANA zone id (e.g. "Asia/Kolkata") so day boundaries follow DST; the fixed
+     * tzOffsetMinutes is kept for older clients, and for zone ids this JRE's tzdata does not
+     * know yet. Without either, days are UTC.
+     */
+    private static ZoneId resolveZone(String tz, Integer tzOffsetMinutes) {
+        ZoneId zone;
+        if (tz != null && !tz.isBlank()) {
+            try {
+                zone = ZoneId.of(tz);
+            } catch (ZoneRulesException e) {
+                if (tzOffsetMinutes == null) {
+                    throw e;
+                }
+                zone = fixedOffset(tzOffsetMinutes);
+            }
+        } else {
+            zone = fixedOffset(tzOffsetMinutes != null ? tzOffsetMinutes : 0);
+        }
+        // Analytics are rebased from UTC quarter-hour rollups, so only offsets on that grid are exact
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset() && rules.getOffset(Instant.EPOCH).getTotalSeconds() % (15 * 60) != 0) {
+            throw new DateTimeException("UTC offset must be a multiple of 15 minutes: " + zone.getId());
+        }
+        return zone;
+    }
+
+    private static ZoneOffset fixedOffset(int tzOffsetMinutes) {
         // Keep in a sane range: UTC-14 to UTC+14
         int min = -14 * 60;
         int max = 14 * 60;
-        return Math.max(min, Math.min(max, tzOffsetMinutes));
+        return ZoneOffset.ofTotalSeconds(Math.max(min, Math.min(max, tzOffsetMinutes)) * 60);
     }
 }
@@ -1,8 +1,7 @@
 package com.worktracker.controller;
 
 import com.worktracker.dto.ApiResponse;
-import com.worktracker.model.TeamMember;
-import com.worktracker.repository.TeamMemberRepository;
+import com.worktracker.service.ActivityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,7 +13,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SessionController {
 
-    private final TeamMemberRepository teamMemberRepository;
+    private final ActivityService activityService;
 
     @PostMapping("/logout")
     public ResponseEntity<ApiResponse<Map<String, String>>> logout(@RequestBody Map<String, String> body) {
@@ -23,12 +22,7 @@ public class SessionController {
             return ResponseEntity.badRequest().body(ApiResponse.error("username missing"));
         }
 
-        TeamMember member = teamMemberRepository.findByUsername(username).orElse(null);
-        if (member != null) {
-            member.setIsCurrentlyWorking(false);
-            member.setCurrentApplication(null);
-            teamMemberRepository.save(member);
-        }
+        activityService.logout(username);
 
         return ResponseEntity.ok(ApiResponse.success(Map.of("status", "ok")));
     }
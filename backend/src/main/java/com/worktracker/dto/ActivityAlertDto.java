@@ -0,0 +1,18 @@
+package com.worktracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityAlertDto {
+    private String type; // FOCUS_SWITCHING, LONG_IDLE, OFF_HOURS, CATEGORY_DRIFT
+    private String message;
+    private LocalDateTime occurredAt; // UTC
+}
@@ -0,0 +1,21 @@
+package com.worktracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyDigestDto {
+    private String date;
+    private Long activeMinutes;
+    private Long focusSwitches;
+    private Long idleGaps;
+    private Long longestIdleMinutes;
+    private Long offHoursMinutes;
+    private Long alertCount;
+    private String topCategory;
+}
@@ -0,0 +1,20 @@
+package com.worktracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDto {
+    private String from; // first UTC day, inclusive
+    private String to; // last UTC day, inclusive
+    private Long totalActiveMinutes;
+    private List<LeaderboardEntryDto> applications;
+    private List<LeaderboardEntryDto> categories;
+}
@@ -0,0 +1,17 @@
+package com.worktracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+    private String name;
+    private Long minutes;
+    private Double percentage;
+    private Long maxErrorMinutes; // minutes may be over-counted by up to this much; 0 when exact
+}
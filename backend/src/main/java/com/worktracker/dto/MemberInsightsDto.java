@@ -0,0 +1,20 @@
+package com.worktracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberInsightsDto {
+    private String username;
+    private String fullName;
+    private List<ActivityAlertDto> alerts; // most recent first
+    private DailyDigestDto today;
+    private DailyDigestDto yesterday;
+}
@@ -6,19 +6,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
-import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(indexes = {
-        @Index(name = "idx_activity_username", columnList = "username"),
-        @Index(name = "idx_activity_timestamp", columnList = "timestamp"),
-        @Index(name = "idx_activity_username_timestamp", columnList = "username,timestamp")
-})
 @Data
 @Builder
 @NoArgsConstructor
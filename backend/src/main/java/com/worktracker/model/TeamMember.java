@@ -6,10 +6,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(indexes = {
-        @Index(name = "idx_member_username", columnList = "username")
-})
 @Data
 @Builder
 @NoArgsConstructor
@@ -31,4 +30,6 @@ public class TeamMember {
     private Boolean isCurrentlyWorking = false;
 
     private String currentApplication;
+
+    private LocalDateTime lastSeen;
 }
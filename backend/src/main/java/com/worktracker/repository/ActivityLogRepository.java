@@ -2,18 +2,41 @@ package com.worktracker.repository;
 
 import com.worktracker.model.ActivityLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
-    List<ActivityLog> findByUsernameOrderByTimestampDesc(String username);
-
-    List<ActivityLog> findAllByOrderByTimestampDesc();
-
     List<ActivityLog> findByUsernameAndTimestampBetweenOrderByTimestampAsc(
             String username, LocalDateTime start, LocalDateTime end);
 
-    List<ActivityLog> findByTimestampBetweenOrderByTimestampDesc(
-            LocalDateTime start, LocalDateTime end);
+    /**
+     * Heartbeat counts per application and UTC quarter-hour (0-95 within the day) for
+     * one user in [start, end). Rows are {applicationName, quarter, count}.
+     */
+    @Query(value = """
+            SELECT application_name,
+                   CAST(EXTRACT(HOUR FROM timestamp) * 4 + FLOOR(EXTRACT(MINUTE FROM timestamp) / 15) AS INTEGER),
+                   COUNT(*)
+            FROM activity_log
+            WHERE username = :username AND timestamp >= :start AND timestamp < :end
+            GROUP BY 1, 2
+            """, nativeQuery = true)
+    List<Object[]> countByApplicationAndQuarterHour(@Param("username") String username,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Heartbeat counts per UTC day and application for one user in [start, end), with the
+     * latest timestamp of each. Rows are {utcDay, applicationName, count, lastTimestamp}.
+     */
+    @Query(value = """
+            SELECT CAST(timestamp AS DATE), application_name, COUNT(*), MAX(timestamp)
+            FROM activity_log
+            WHERE username = :username AND timestamp >= :start AND timestamp < :end
+            GROUP BY 1, 2
+            """, nativeQuery = true)
+    List<Object[]> countByDayAndApplication(@Param("username") String username,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
@@ -2,7 +2,12 @@ package com.worktracker.repository;
 
 import com.worktracker.model.TeamMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
@@ -10,4 +15,36 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     Optional<TeamMember> findByUsername(String username);
 
     List<TeamMember> findAllByOrderByTotalWorkingMinutesDesc();
+
+    /**
+     * Heartbeat upsert: creates the member on first sight, marks them working and advances
+     * last_seen, all in one statement so concurrent first heartbeats cannot collide on the
+     * unique username. current_application is only replaced on the offline -> online
+     * transition.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO team_member (username, full_name, total_working_minutes, is_currently_working,
+                                     current_application, last_seen)
+            VALUES (:username, :fullName, 0, true, :application, :seenAt)
+            ON CONFLICT (username) DO UPDATE SET
+                is_currently_working = true,
+                current_application = CASE WHEN team_member.is_currently_working
+                                           THEN team_member.current_application
+                                           ELSE EXCLUDED.current_application END,
+                last_seen = GREATEST(team_member.last_seen, EXCLUDED.last_seen)
+            """, nativeQuery = true)
+    int upsertHeartbeat(@Param("username") String username, @Param("fullName") String fullName,
+            @Param("application") String application, @Param("seenAt") LocalDateTime seenAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TeamMember m SET m.totalWorkingMinutes = COALESCE(m.totalWorkingMinutes, 0) + :minutes " +
+            "WHERE m.username = :username")
+    int addWorkingMinutes(@Param("username") String username, @Param("minutes") long minutes);
+
+    @Modifying
+    @Query("UPDATE TeamMember m SET m.isCurrentlyWorking = false, m.currentApplication = null " +
+            "WHERE m.username = :username")
+    int markLoggedOut(@Param("username") String username);
 }
@@ -0,0 +1,121 @@
+package com.worktracker.service;
+
+import com.worktracker.repository.ActivityLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user heartbeat counts at UTC quarter-hour granularity, one rollup per UTC day.
+ * Every current IANA zone is offset from UTC by a multiple of 15 minutes, so any local
+ * day (including 23- and 25-hour DST days) is an exact union of quarter-hour slots and
+ * can be rebased from these rollups without touching activity_log again. Viewers in
+ * different zones therefore share the same cached data.
+ *
+ * <p>A cached day is reused while the user's lastSeen watermark (clamped to the end of
+ * that day) is unchanged, which makes finished days permanent and keeps every node
+ * coherent without invalidation messages.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityRollupService {
+
+    private static final Duration SLOT = Duration.ofMinutes(15);
+
+    private final ActivityLogRepository activityLogRepository;
+
+    private final Map<DayKey, DayRollup> rollups = new ConcurrentHashMap<>();
+
+    @Value("${worktracker.rollup.retention-days:35}")
+    private int retentionDays;
+
+    /**
+     * Aggregates one user's heartbeats in [start, end), bucketing hours in {@code zone}.
+     *
+     * @param lastSeen the user's team_member.lastSeen, or null if unknown
+     * @throws DateTimeException if start or end is not on a UTC quarter-hour boundary
+     */
+    public ActivityWindow getWindow(String username, Instant start, Instant end, ZoneId zone,
+            LocalDateTime lastSeen) {
+        // A window edge inside a slot would silently drop or double-count that slot
+        if (start.toEpochMilli() % SLOT.toMillis() != 0 || end.toEpochMilli() % SLOT.toMillis() != 0) {
+            throw new DateTimeException("Window " + start + " - " + end + " in " + zone.getId()
+                    + " is not aligned to UTC quarter-hours");
+        }
+        Map<String, Long> applicationCounts = new HashMap<>();
+        long[] hourlyCounts = new long[24];
+        long totalCount = 0;
+
+        LocalDate firstDay = LocalDate.ofInstant(start, ZoneOffset.UTC);
+        LocalDate lastDay = LocalDate.ofInstant(end.minusNanos(1), ZoneOffset.UTC);
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            Instant dayStart = day.atStartOfDay().toInstant(ZoneOffset.UTC);
+            for (Slot slot : getDayRollup(username, day, lastSeen).slots()) {
+                Instant slotStart = dayStart.plus(SLOT.multipliedBy(slot.quarter()));
+                if (slotStart.isBefore(start) || !slotStart.isBefore(end)) {
+                    continue;
+                }
+                applicationCounts.merge(slot.applicationName(), slot.count(), Long::sum);
+                hourlyCounts[slotStart.atZone(zone).getHour()] += slot.count();
+                totalCount += slot.count();
+            }
+        }
+        return new ActivityWindow(applicationCounts, hourlyCounts, totalCount);
+    }
+
+    private DayRollup getDayRollup(String username, LocalDate utcDay, LocalDateTime lastSeen) {
+        LocalDateTime dayStart = utcDay.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+
+        // Nothing can have been logged after lastSeen
+        if (lastSeen != null && lastSeen.isBefore(dayStart)) {
+            return DayRollup.EMPTY;
+        }
+        LocalDateTime watermark = lastSeen != null && lastSeen.isAfter(dayEnd) ? dayEnd : lastSeen;
+
+        DayKey key = new DayKey(username, utcDay);
+        DayRollup cached = rollups.get(key);
+        if (cached != null && Objects.equals(cached.watermark(), watermark)) {
+            return cached;
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        for (Object[] row : activityLogRepository.countByApplicationAndQuarterHour(username, dayStart, dayEnd)) {
+            slots.add(new Slot((String) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).longValue()));
+        }
+        DayRollup fresh = new DayRollup(watermark, List.copyOf(slots));
+        rollups.put(key, fresh);
+        return fresh;
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void evictExpired() {
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+        rollups.keySet().removeIf(key -> key.utcDay().isBefore(cutoff));
+    }
+
+    private record DayKey(String username, LocalDate utcDay) {
+    }
+
+    private record Slot(String applicationName, int quarter, long count) {
+    }
+
+    private record DayRollup(LocalDateTime watermark, List<Slot> slots) {
+        static final DayRollup EMPTY = new DayRollup(null, List.of());
+    }
+}
@@ -1,6 +1,8 @@
 package com.worktracker.service;
 
 import com.worktracker.dto.ActivityLogRequest;
+import com.worktracker.dto.LeaderboardDto;
+import com.worktracker.dto.MemberInsightsDto;
 import com.worktracker.dto.MemberSummaryDto;
 import com.worktracker.exception.InvalidMemberException;
 import com.worktracker.model.ActivityLog;
@@ -11,11 +13,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,6 +32,11 @@ public class ActivityService {
 
     private final ActivityLogRepository activityLogRepository;
     private final TeamMemberRepository teamMemberRepository;
+    private final WorkingTimeAccumulator workingTimeAccumulator;
+    private final HeartbeatBroadcaster heartbeatBroadcaster;
+    private final ActivityRollupService activityRollupService;
+    private final ActivityStreamAnalyzer activityStreamAnalyzer;
+    private final LeaderboardService leaderboardService;
 
     private static final Set<String> VALID_MEMBERS = Set.of(
             "tanmay_kudkar", "yash_thakur", "nidhish_vartak", "atharva_raut", "parth_waghe");
@@ -42,7 +53,7 @@ public class ActivityService {
         validateMember(request.getUsername());
 
         // Store as UTC to ensure consistent timezone handling
-        LocalDateTime timestamp = LocalDateTime.now(java.time.ZoneOffset.UTC);
+        LocalDateTime timestamp = LocalDateTime.now(ZoneOffset.UTC);
 
         ActivityLog activityLog = ActivityLog.builder()
                 .username(request.getUsername())
@@ -50,23 +61,17 @@ public class ActivityService {
                 .timestamp(timestamp)
                 .build();
 
-        // Mark user as currently working (online) when activity is received
-        TeamMember member = teamMemberRepository.findByUsername(request.getUsername())
-                .orElseGet(() -> {
-                    TeamMember newMember = TeamMember.builder()
-                            .username(request.getUsername())
-                            .fullName(MEMBER_NAMES.getOrDefault(request.getUsername(), request.getUsername()))
-                            .totalWorkingMinutes(0L)
-                            .isCurrentlyWorking(true)
-                            .build();
-                    return teamMemberRepository.save(newMember);
-                });
-
-        if (!Boolean.TRUE.equals(member.getIsCurrentlyWorking())) {
-            member.setIsCurrentlyWorking(true);
-            member.setCurrentApplication(request.getApplicationName());
-            teamMemberRepository.save(member);
-        }
+        // Mark user as currently working (online) and advance lastSeen in one upsert
+        teamMemberRepository.upsertHeartbeat(
+                request.getUsername(),
+                MEMBER_NAMES.getOrDefault(request.getUsername(), request.getUsername()),
+                request.getApplicationName(),
+                timestamp);
+        workingTimeAccumulator.record(request.getUsername(), SECONDS_PER_LOG);
+        // Feeds the stream consumers (insights, leaderboard) on this node after commit and,
+        // batched outside this transaction, on every other node
+        heartbeatBroadcaster.record(new Heartbeat(request.getUsername(), timestamp.toInstant(ZoneOffset.UTC),
+                request.getApplicationName()));
 
         log.info("Logging activity for user: {}, app: {} at {}",
                 request.getUsername(), request.getApplicationName(), timestamp);
@@ -74,59 +79,90 @@ public class ActivityService {
         return activityLogRepository.save(activityLog);
     }
 
+    @Transactional
+    public void logout(String username) {
+        teamMemberRepository.markLoggedOut(username);
+    }
+
+    public MemberInsightsDto getInsights(String username) {
+        validateMember(username);
+        return activityStreamAnalyzer.getInsights(username, MEMBER_NAMES.getOrDefault(username, username));
+    }
+
+    public List<MemberInsightsDto> getAllInsights() {
+        return VALID_MEMBERS.stream()
+                .sorted()
+                .map(username -> activityStreamAnalyzer.getInsights(username,
+                        MEMBER_NAMES.getOrDefault(username, username)))
+                .collect(Collectors.toList());
+    }
+
+    /** Team-wide top applications and categories over the UTC days [from, to]. */
+    public LeaderboardDto getLeaderboard(LocalDate from, LocalDate to, int limit) {
+        Map<String, LocalDateTime> lastSeen = new HashMap<>();
+        findMembersByUsername().forEach((username, member) -> lastSeen.put(username, member.getLastSeen()));
+        return leaderboardService.getLeaderboard(VALID_MEMBERS, lastSeen, from, to, limit);
+    }
+
     public List<MemberSummaryDto> getAllMembersSummary(LocalDate date) {
-        return getAllMembersSummary(date, 0);
+        return getAllMembersSummary(date, ZoneOffset.UTC);
     }
 
-    public List<MemberSummaryDto> getAllMembersSummary(LocalDate date, int tzOffsetMinutes) {
-        LocalDateTime startOfDayUtc = localToUtc(date.atStartOfDay(), tzOffsetMinutes);
-        LocalDateTime endOfDayUtc = localToUtc(date.atTime(LocalTime.MAX), tzOffsetMinutes);
+    public List<MemberSummaryDto> getAllMembersSummary(LocalDate date, ZoneId zone) {
+        Instant start = startOfDay(date, zone);
+        Instant end = startOfDay(date.plusDays(1), zone);
         // Use UTC 'now' for recent activity checks to match stored UTC timestamps
-        LocalDateTime nowUtc = LocalDateTime.now(java.time.ZoneOffset.UTC);
-        boolean isToday = date.equals(LocalDate.now(java.time.ZoneOffset.UTC));
+        LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
+        Map<String, TeamMember> members = findMembersByUsername();
 
         return VALID_MEMBERS.stream()
-            .map(username -> createMemberSummary(username, startOfDayUtc, endOfDayUtc, nowUtc, isToday))
+            .map(username -> createMemberSummary(username, members.get(username), start, end, zone, nowUtc))
             .sorted(Comparator.comparing(MemberSummaryDto::getTotalActiveMinutes).reversed())
             .collect(Collectors.toList());
     }
 
     public Map<String, Object> getDashboard(String username, LocalDate date) {
-        return getDashboard(username, date, 0);
+        return getDashboard(username, date, ZoneOffset.UTC);
     }
 
-    public Map<String, Object> getDashboard(String username, LocalDate date, int tzOffsetMinutes) {
-        validateMember(username);
+    public Map<String, Object> getDashboard(String username, LocalDate date, ZoneId zone) {
+        return getDashboard(username, date, zone, false);
+    }
 
-        LocalDateTime startOfDayUtc = localToUtc(date.atStartOfDay(), tzOffsetMinutes);
-        LocalDateTime endOfDayUtc = localToUtc(date.atTime(LocalTime.MAX), tzOffsetMinutes);
+    /**
+     * @param compact when true, hourlyActivity is a plain 24-slot array of minutes
+     *                instead of one object per hour
+     */
+    public Map<String, Object> getDashboard(String username, LocalDate date, ZoneId zone, boolean compact) {
+        validateMember(username);
 
-        List<ActivityLog> logs = activityLogRepository
-                .findByUsernameAndTimestampBetweenOrderByTimestampAsc(username, startOfDayUtc, endOfDayUtc);
+        ActivityWindow window = activityRollupService.getWindow(username,
+                startOfDay(date, zone), startOfDay(date.plusDays(1), zone), zone, findLastSeen(username));
 
         Map<String, Object> dashboard = new HashMap<>();
         dashboard.put("username", username);
         dashboard.put("fullName", MEMBER_NAMES.getOrDefault(username, username));
         dashboard.put("date", date.toString());
-        dashboard.put("totalActiveMinutes", calculateTotalActiveTime(logs));
-        dashboard.put("topApplications", getTopApplications(logs));
-        dashboard.put("hourlyActivity", getHourlyActivity(logs, tzOffsetMinutes));
-        dashboard.put("categories", getCategoryBreakdown(logs));
+        dashboard.put("totalActiveMinutes", calculateTotalActiveTime(window.totalCount()));
+        dashboard.put("topApplications", getTopApplications(window));
+        dashboard.put("hourlyActivity", compact ? getHourlyMinutes(window) : getHourlyActivity(window));
+        dashboard.put("categories", getCategoryBreakdown(window));
 
         return dashboard;
     }
 
-    public Map<String, Object> getWeeklySummary(LocalDate endDate, int tzOffsetMinutes) {
+    public Map<String, Object> getWeeklySummary(LocalDate endDate, ZoneId zone) {
         LocalDate startDate = endDate.minusDays(6); // Last 7 days including endDate
 
-        LocalDateTime startOfWeekUtc = localToUtc(startDate.atStartOfDay(), tzOffsetMinutes);
-        LocalDateTime endOfWeekUtc = localToUtc(endDate.atTime(LocalTime.MAX), tzOffsetMinutes);
+        Instant startOfWeek = startOfDay(startDate, zone);
+        Instant endOfWeek = startOfDay(endDate.plusDays(1), zone);
+        Map<String, TeamMember> members = findMembersByUsername();
 
         long totalWeeklyMinutes = 0;
         for (String username : VALID_MEMBERS) {
-            List<ActivityLog> logs = activityLogRepository
-                    .findByUsernameAndTimestampBetweenOrderByTimestampAsc(username, startOfWeekUtc, endOfWeekUtc);
-            totalWeeklyMinutes += calculateTotalActiveTime(logs);
+            ActivityWindow window = activityRollupService.getWindow(username, startOfWeek, endOfWeek, zone,
+                    lastSeen(members.get(username)));
+            totalWeeklyMinutes += calculateTotalActiveTime(window.totalCount());
         }
 
         Map<String, Object> weeklySummary = new HashMap<>();
@@ -137,57 +173,126 @@ public class ActivityService {
         return weeklySummary;
     }
 
+    /*
+     * ETags for the polled endpoints. They are derived from each member's lastSeen
+     * watermark (a single read of the small team_member table) rather than from the
+     * response body, so If-None-Match can be answered before any activity_log query.
+     * Watermarks are clamped to the end of the requested window: once a day is over,
+     * its ETag stops changing. Weak ETags because the body may be gzip-encoded.
+     */
+
+    public String getSummaryETag(LocalDate date, ZoneId zone) {
+        LocalDateTime endOfDayUtc = toUtc(startOfDay(date.plusDays(1), zone));
+        LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
+        Map<String, TeamMember> members = findMembersByUsername();
+
+        StringBuilder version = new StringBuilder("summary|").append(date).append('|').append(zone.getId());
+        VALID_MEMBERS.stream().sorted().forEach(username -> {
+            TeamMember member = members.get(username);
+            version.append('|').append(username);
+            if (member == null) {
+                return;
+            }
+            // Presence and current app follow the latest heartbeat even when the requested
+            // day is in the past
+            boolean active = isActive(member, nowUtc);
+            version.append(':').append(active)
+                    .append(':').append(active ? member.getLastSeen() : watermark(member, endOfDayUtc));
+        });
+        return toWeakETag(version);
+    }
+
+    public String getDashboardETag(String username, LocalDate date, ZoneId zone) {
+        validateMember(username);
+        LocalDateTime endOfDayUtc = toUtc(startOfDay(date.plusDays(1), zone));
+
+        StringBuilder version = new StringBuilder("dashboard|").append(username)
+                .append('|').append(date).append('|').append(zone.getId())
+                .append('|').append(teamMemberRepository.findByUsername(username)
+                        .map(member -> watermark(member, endOfDayUtc))
+                        .orElse(null));
+        return toWeakETag(version);
+    }
+
+    public String getWeeklySummaryETag(LocalDate endDate, ZoneId zone) {
+        LocalDateTime endOfWeekUtc = toUtc(startOfDay(endDate.plusDays(1), zone));
+        Map<String, TeamMember> members = findMembersByUsername();
+
+        StringBuilder version = new StringBuilder("weekly|").append(endDate).append('|').append(zone.getId());
+        VALID_MEMBERS.stream().sorted().forEach(username -> version.append('|').append(username)
+                .append(':').append(members.containsKey(username)
+                        ? watermark(members.get(username), endOfWeekUtc)
+                        : null));
+        return toWeakETag(version);
+    }
+
+    private Map<String, TeamMember> findMembersByUsername() {
+        return teamMemberRepository.findAll().stream()
+                .collect(Collectors.toMap(TeamMember::getUsername, member -> member));
+    }
+
+    private LocalDateTime findLastSeen(String username) {
+        return teamMemberRepository.findByUsername(username).map(TeamMember::getLastSeen).orElse(null);
+    }
+
     /**
-     * dashboard.put("totalActiveMinutes", calculateTotalActiveTime(logs));
-     * dashboard.put("topApplications", getTopApplications(logs));
-     * dashboard.put("hourlyActivity", getHourlyActivity(logs, tzOffsetMinutes));
-     * dashboard.put("categories", getCategoryBreakdown(logs));
-     * 
-     * return dashboard;
-     * }
-     * 
-     * /**
-     * Stored timestamps are treated as UTC LocalDateTime. Convert a local datetime
-     * (user/browser) to UTC.
-     * tzOffsetMinutes is the user's offset from UTC in minutes (e.g. IST = +330).
+     * Online unless the member logged out, and seen within the last 2 minutes (the tracker
+     * sends a heartbeat every 30 seconds). The summary ETag and body both go through this.
      */
-    private static LocalDateTime localToUtc(LocalDateTime local, int tzOffsetMinutes) {
-        return local.minusMinutes(tzOffsetMinutes);
+    private static boolean isActive(TeamMember member, LocalDateTime nowUtc) {
+        return member != null
+                && !Boolean.FALSE.equals(member.getIsCurrentlyWorking())
+                && member.getLastSeen() != null
+                && !member.getLastSeen().isBefore(nowUtc.minusMinutes(2));
     }
 
-    private static LocalDateTime utcToLocal(LocalDateTime utc, int tzOffsetMinutes) {
-        return utc.plusMinutes(tzOffsetMinutes);
+    private static LocalDateTime lastSeen(TeamMember member) {
+        return member != null ? member.getLastSeen() : null;
     }
 
-    private MemberSummaryDto createMemberSummary(String username, LocalDateTime start, LocalDateTime end,
-            LocalDateTime now, boolean isToday) {
-        List<ActivityLog> logs = activityLogRepository
-                .findByUsernameAndTimestampBetweenOrderByTimestampAsc(username, start, end);
+    private static LocalDateTime watermark(TeamMember member, LocalDateTime windowEndUtc) {
+        LocalDateTime lastSeen = member.getLastSeen();
+        if (lastSeen == null || lastSeen.isBefore(windowEndUtc)) {
+            return lastSeen;
+        }
+        return windowEndUtc;
+    }
 
-        long totalMinutes = calculateTotalActiveTime(logs);
+    private static String toWeakETag(CharSequence version) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 
-        // First check if user explicitly logged out (isCurrentlyWorking = false in
-        // TeamMember)
-        Optional<TeamMember> memberOpt = teamMemberRepository.findByUsername(username);
-        boolean explicitlyLoggedOut = memberOpt.isPresent() &&
-                Boolean.FALSE.equals(memberOpt.get().getIsCurrentlyWorking());
+    /**
+     * Start of a local calendar day in the viewer's zone. Using the next day's start as
+     * the exclusive end keeps 23- and 25-hour DST days exact.
+     */
+    private static Instant startOfDay(LocalDate date, ZoneId zone) {
+        return date.atStartOfDay(zone).toInstant();
+    }
+
+    /** Stored timestamps are UTC LocalDateTime values. */
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
 
-        boolean isActive = false;
+    private MemberSummaryDto createMemberSummary(String username, TeamMember member, Instant start, Instant end,
+            ZoneId zone, LocalDateTime now) {
+        ActivityWindow window = activityRollupService.getWindow(username, start, end, zone, lastSeen(member));
+
+        long totalMinutes = calculateTotalActiveTime(window.totalCount());
+
+        boolean isActive = isActive(member, now);
         String currentApp = null;
 
-        if (!explicitlyLoggedOut) {
-            // Only check recent activity if not explicitly logged out
-            // Look for any activity in the last 2 minutes (tracker sends every 30 sec)
-            LocalDateTime twoMinutesAgo = now.minusMinutes(2);
+        if (isActive) {
+            // The latest heartbeat is the one that set lastSeen
             List<ActivityLog> recentLogs = activityLogRepository
                     .findByUsernameAndTimestampBetweenOrderByTimestampAsc(
                             username,
-                            twoMinutesAgo,
+                            member.getLastSeen(),
                             now.plusMinutes(1));
 
-            isActive = !recentLogs.isEmpty();
-
-            if (isActive && !recentLogs.isEmpty()) {
+            if (!recentLogs.isEmpty()) {
                 ActivityLog mostRecent = recentLogs.get(recentLogs.size() - 1);
                 currentApp = normalizeAppName(mostRecent.getApplicationName());
             }
@@ -200,7 +305,7 @@ public class ActivityService {
                 .totalActiveHours(String.format("%.1f", totalMinutes / 60.0))
                 .isActive(isActive)
                 .currentApplication(currentApp)
-                .topApp(getTopApp(logs))
+                .topApp(getTopApp(window))
                 .build();
     }
 
@@ -211,19 +316,19 @@ public class ActivityService {
     }
 
     // Each log entry represents 30 seconds of activity
-    private static final int SECONDS_PER_LOG = 30;
+    static final int SECONDS_PER_LOG = 30;
 
-    private long calculateTotalActiveTime(List<ActivityLog> logs) {
-        // Each log = 10 seconds, so total minutes = (logs * 10) / 60
-        return (logs.size() * SECONDS_PER_LOG) / 60;
+    private long calculateTotalActiveTime(long logCount) {
+        return (logCount * SECONDS_PER_LOG) / 60;
     }
 
-    private List<Map<String, Object>> getTopApplications(List<ActivityLog> logs) {
-        Map<String, Long> appCounts = logs.stream()
-                .filter(log -> log.getApplicationName() != null)
-                .collect(Collectors.groupingBy(
-                        log -> normalizeAppName(log.getApplicationName()),
-                        Collectors.counting()));
+    private List<Map<String, Object>> getTopApplications(ActivityWindow window) {
+        Map<String, Long> appCounts = new HashMap<>();
+        window.applicationCounts().forEach((app, count) -> {
+            if (app != null) {
+                appCounts.merge(normalizeAppName(app), count, Long::sum);
+            }
+        });
 
         return appCounts.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
@@ -234,24 +339,20 @@ public class ActivityService {
                     app.put("name", entry.getKey());
                     app.put("minutes", totalSeconds / 60);
                     app.put("seconds", totalSeconds % 60);
-                    app.put("percentage", logs.isEmpty() ? 0 : (entry.getValue() * 100.0 / logs.size()));
+                    app.put("percentage", window.totalCount() == 0 ? 0
+                            : (entry.getValue() * 100.0 / window.totalCount()));
                     return app;
                 })
                 .collect(Collectors.toList());
     }
 
-    private List<Map<String, Object>> getHourlyActivity(List<ActivityLog> logs, int tzOffsetMinutes) {
-        Map<Integer, Long> hourlyCount = logs.stream()
-                .collect(Collectors.groupingBy(
-                        log -> utcToLocal(log.getTimestamp(), tzOffsetMinutes).getHour(),
-                        Collectors.counting()));
-
+    private List<Map<String, Object>> getHourlyActivity(ActivityWindow window) {
         List<Map<String, Object>> hourly = new ArrayList<>();
         for (int hour = 0; hour < 24; hour++) {
             Map<String, Object> h = new HashMap<>();
             h.put("hour", hour);
             h.put("label", String.format("%02d:00", hour));
-            long count = hourlyCount.getOrDefault(hour, 0L);
+            long count = window.hourlyCounts()[hour];
             h.put("minutes", (count * SECONDS_PER_LOG) / 60);
             h.put("active", count > 0);
             hourly.add(h);
@@ -259,15 +360,23 @@ public class ActivityService {
         return hourly;
     }
 
-    private Map<String, Object> getCategoryBreakdown(List<ActivityLog> logs) {
+    private List<Long> getHourlyMinutes(ActivityWindow window) {
+        List<Long> hourly = new ArrayList<>(24);
+        for (long count : window.hourlyCounts()) {
+            hourly.add((count * SECONDS_PER_LOG) / 60);
+        }
+        return hourly;
+    }
+
+    private Map<String, Object> getCategoryBreakdown(ActivityWindow window) {
         Map<String, Long> categories = new HashMap<>();
 
-        for (ActivityLog log : logs) {
-            String app = log.getApplicationName() != null ? log.getApplicationName().toLowerCase() : "";
+        window.applicationCounts().forEach((appName, count) -> {
+            String app = appName != null ? appName.toLowerCase() : "";
             String title = ""; // windowTitle removed
             String category = categorizeActivity(app, title);
-            categories.merge(category, 1L, Long::sum);
-        }
+            categories.merge(category, count, Long::sum);
+        });
 
         Map<String, Object> result = new HashMap<>();
         List<Map<String, Object>> categoryList = categories.entrySet().stream()
@@ -276,29 +385,30 @@ public class ActivityService {
                     Map<String, Object> cat = new HashMap<>();
                     cat.put("name", entry.getKey());
                     cat.put("minutes", (entry.getValue() * SECONDS_PER_LOG) / 60);
-                    cat.put("percentage", logs.isEmpty() ? 0 : (entry.getValue() * 100.0 / logs.size()));
+                    cat.put("percentage", window.totalCount() == 0 ? 0
+                            : (entry.getValue() * 100.0 / window.totalCount()));
                     cat.put("color", getCategoryColor(entry.getKey()));
                     return cat;
                 })
                 .collect(Collectors.toList());
 
         result.put("categories", categoryList);
-        result.put("tree", buildCategoryTree(logs));
+        result.put("tree", buildCategoryTree(window));
         return result;
     }
 
-    private List<Map<String, Object>> buildCategoryTree(List<ActivityLog> logs) {
+    private List<Map<String, Object>> buildCategoryTree(ActivityWindow window) {
         Map<String, Map<String, Long>> tree = new HashMap<>();
 
-        for (ActivityLog log : logs) {
-            String app = log.getApplicationName() != null ? log.getApplicationName().toLowerCase() : "";
+        window.applicationCounts().forEach((appName, count) -> {
+            String app = appName != null ? appName.toLowerCase() : "";
             String title = ""; // windowTitle removed
             String category = categorizeActivity(app, title);
-            String normalizedApp = normalizeAppName(log.getApplicationName());
+            String normalizedApp = normalizeAppName(appName);
 
             tree.computeIfAbsent(category, k -> new HashMap<>())
-                    .merge(normalizedApp, 1L, Long::sum);
-        }
+                    .merge(normalizedApp, count, Long::sum);
+        });
 
         return tree.entrySet().stream()
                 .map(entry -> {
@@ -328,19 +438,34 @@ public class ActivityService {
                 .collect(Collectors.toList());
     }
 
-    private String getTopApp(List<ActivityLog> logs) {
-        return logs.stream()
-                .filter(log -> log.getApplicationName() != null)
-                .collect(Collectors.groupingBy(
-                        log -> normalizeAppName(log.getApplicationName()),
-                        Collectors.counting()))
-                .entrySet().stream()
+    private String getTopApp(ActivityWindow window) {
+        Map<String, Long> appCounts = new HashMap<>();
+        window.applicationCounts().forEach((app, count) -> {
+            if (app != null) {
+                appCounts.merge(normalizeAppName(app), count, Long::sum);
+            }
+        });
+        return appCounts.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse(null);
     }
 
-    private String categorizeActivity(String app, String title) {
+    /**
+     * Every category {@link #categorizeActivity} returns, indexing the per-category counters
+     * of the stream analysis and the leaderboard. Keep in step with it and {@link #getCategoryColor}.
+     */
+    static final List<String> CATEGORIES = List.of("Programming", "Communication", "Browsing",
+            "Entertainment", "Email", "File Management", "Games", "Media", "Other");
+    private static final int OTHER_CATEGORY = CATEGORIES.indexOf("Other");
+
+    static int categoryIndex(String applicationName) {
+        String app = applicationName != null ? applicationName.toLowerCase() : "";
+        int index = CATEGORIES.indexOf(categorizeActivity(app, ""));
+        return index >= 0 ? index : OTHER_CATEGORY;
+    }
+
+    static String categorizeActivity(String app, String title) {
         if (app.contains("code") || app.contains("idea") || app.contains("intellij") ||
                 app.contains("visual studio") || app.contains("eclipse") || app.contains("pycharm")) {
             return "Programming";
@@ -391,7 +516,7 @@ public class ActivityService {
         };
     }
 
-    private String normalizeAppName(String appName) {
+    static String normalizeAppName(String appName) {
         if (appName == null)
             return "Unknown";
         String lower = appName.toLowerCase();
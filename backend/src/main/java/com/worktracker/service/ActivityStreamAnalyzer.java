@@ -0,0 +1,321 @@
+package com.worktracker.service;
+
+import com.worktracker.dto.ActivityAlertDto;
+import com.worktracker.dto.DailyDigestDto;
+import com.worktracker.dto.MemberInsightsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental analysis of the heartbeat stream. Every node receives every heartbeat
+ * (its own after commit, the others' in batches through the cluster channel), and each user's
+ * state is a fixed set of counters, ring buffers and moving averages, so nothing here
+ * ever scans activity_log. State lives in memory and starts empty after a restart.
+ *
+ * <p>Detected patterns:
+ * <ul>
+ *   <li>FOCUS_SWITCHING - many application switches within a sliding 10-minute window</li>
+ *   <li>LONG_IDLE - a gap between heartbeats on the same local day</li>
+ *   <li>OFF_HOURS - activity outside the configured working hours</li>
+ *   <li>CATEGORY_DRIFT - the last ~10 minutes' category mix differs sharply from the
+ *       user's ~8-hour baseline</li>
+ * </ul>
+ */
+@Component
+public class ActivityStreamAnalyzer {
+
+    private static final int SWITCH_WINDOW_MINUTES = 10;
+    private static final int MAX_ALERTS = 20;
+
+    // Exponential moving averages over heartbeats (30 s apart): ~8 hours vs ~10 minutes
+    private static final double BASELINE_ALPHA = 1.0 / 960;
+    private static final double RECENT_ALPHA = 1.0 / 20;
+    private static final int DRIFT_WARMUP_HEARTBEATS = 240;
+    private static final Duration ALERT_COOLDOWN = Duration.ofMinutes(60);
+
+    private final Map<String, UserStream> streams = new ConcurrentHashMap<>();
+
+    // The team's working hours are defined in IST
+    @Value("${worktracker.insights.zone:Asia/Kolkata}")
+    private ZoneId zone;
+
+    @Value("${worktracker.insights.work-start-hour:8}")
+    private int workStartHour;
+
+    @Value("${worktracker.insights.work-end-hour:20}")
+    private int workEndHour;
+
+    @Value("${worktracker.insights.idle-gap-minutes:15}")
+    private long idleGapMinutes;
+
+    @Value("${worktracker.insights.switch-threshold:10}")
+    private int switchThreshold;
+
+    @Value("${worktracker.insights.drift-threshold:0.6}")
+    private double driftThreshold;
+
+    @EventListener
+    public void onHeartbeat(Heartbeat heartbeat) {
+        streams.computeIfAbsent(heartbeat.username(), k -> new UserStream())
+                .accept(heartbeat.at(), heartbeat.applicationName());
+    }
+
+    public MemberInsightsDto getInsights(String username, String fullName) {
+        UserStream stream = streams.get(username);
+        if (stream == null) {
+            return MemberInsightsDto.builder()
+                    .username(username)
+                    .fullName(fullName)
+                    .alerts(List.of())
+                    .build();
+        }
+        return stream.snapshot(username, fullName);
+    }
+
+    private boolean isOffHours(int hour) {
+        return hour < workStartHour || hour >= workEndHour;
+    }
+
+    private static int argMax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static boolean cooledDown(Instant lastAlert, Instant now) {
+        return lastAlert == null || !now.isBefore(lastAlert.plus(ALERT_COOLDOWN));
+    }
+
+    private static final class Digest {
+        final LocalDate date;
+        long heartbeats;
+        long switches;
+        long idleGaps;
+        long longestIdleMinutes;
+        long offHoursHeartbeats;
+        long alertCount;
+        final long[] categoryCounts = new long[ActivityService.CATEGORIES.size()];
+
+        Digest(LocalDate date) {
+            this.date = date;
+        }
+
+        DailyDigestDto toDto() {
+            int top = 0;
+            for (int i = 1; i < categoryCounts.length; i++) {
+                if (categoryCounts[i] > categoryCounts[top]) {
+                    top = i;
+                }
+            }
+            return DailyDigestDto.builder()
+                    .date(date.toString())
+                    .activeMinutes(heartbeats * ActivityService.SECONDS_PER_LOG / 60)
+                    .focusSwitches(switches)
+                    .idleGaps(idleGaps)
+                    .longestIdleMinutes(longestIdleMinutes)
+                    .offHoursMinutes(offHoursHeartbeats * ActivityService.SECONDS_PER_LOG / 60)
+                    .alertCount(alertCount)
+                    .topCategory(heartbeats > 0 ? ActivityService.CATEGORIES.get(top) : null)
+                    .build();
+        }
+    }
+
+    /** Per-user state; its size does not grow with the number of heartbeats. */
+    private final class UserStream {
+        private Instant lastSeen;
+        private String lastApp;
+
+        private final long[] switchMinutes = new long[SWITCH_WINDOW_MINUTES];
+        private final int[] switchCounts = new int[SWITCH_WINDOW_MINUTES];
+
+        private final double[] baseline = new double[ActivityService.CATEGORIES.size()];
+        private final double[] recent = new double[ActivityService.CATEGORIES.size()];
+        private long heartbeats;
+
+        private Instant lastSwitchAlert;
+        private Instant lastDriftAlert;
+        private LocalDate offHoursAlertedOn;
+
+        private final Deque<ActivityAlertDto> alerts = new ArrayDeque<>();
+        private Digest today;
+        private Digest yesterday;
+
+        synchronized void accept(Instant at, String app) {
+            LocalDateTime local = LocalDateTime.ofInstant(at, zone);
+            Digest digest = digestFor(local.toLocalDate());
+            if (digest == null) {
+                return;
+            }
+
+            int category = ActivityService.categoryIndex(app);
+            boolean offHours = isOffHours(local.getHour());
+            digest.heartbeats++;
+            digest.categoryCounts[category]++;
+            if (offHours) {
+                digest.offHoursHeartbeats++;
+            }
+
+            // Late delivery from another node: counted, but it cannot be sequenced
+            if (lastSeen != null && at.isBefore(lastSeen)) {
+                return;
+            }
+
+            if (lastSeen != null) {
+                long gapMinutes = Duration.between(lastSeen, at).toMinutes();
+                boolean sameDay = LocalDateTime.ofInstant(lastSeen, zone).toLocalDate().equals(local.toLocalDate());
+                if (gapMinutes >= idleGapMinutes) {
+                    if (sameDay) {
+                        digest.idleGaps++;
+                        digest.longestIdleMinutes = Math.max(digest.longestIdleMinutes, gapMinutes);
+                        alert(digest, at, "LONG_IDLE", "Idle for " + gapMinutes + " minutes before resuming in "
+                                + ActivityService.normalizeAppName(app));
+                    }
+                } else if (!Objects.equals(ActivityService.normalizeAppName(lastApp),
+                        ActivityService.normalizeAppName(app))) {
+                    digest.switches++;
+                    int switches = recordSwitch(at);
+                    if (switches >= switchThreshold && cooledDown(lastSwitchAlert, at)) {
+                        lastSwitchAlert = at;
+                        alert(digest, at, "FOCUS_SWITCHING",
+                                switches + " application switches in the last " + SWITCH_WINDOW_MINUTES + " minutes");
+                    }
+                }
+            }
+
+            // One alert per stretch of off-hours activity; an evening and the next early
+            // morning are separate stretches even without in-hours activity between them
+            if (offHours && !local.toLocalDate().equals(offHoursAlertedOn)) {
+                offHoursAlertedOn = local.toLocalDate();
+                alert(digest, at, "OFF_HOURS", String.format(
+                        "Active at %02d:%02d, outside working hours (%02d:00-%02d:00)",
+                        local.getHour(), local.getMinute(), workStartHour, workEndHour));
+            } else if (!offHours) {
+                offHoursAlertedOn = null;
+            }
+
+            updateCategoryDrift(digest, at, category);
+
+            lastSeen = at;
+            lastApp = app;
+        }
+
+        private Digest digestFor(LocalDate date) {
+            if (today == null || date.isAfter(today.date)) {
+                yesterday = today != null && today.date.equals(date.minusDays(1)) ? today : null;
+                today = new Digest(date);
+            }
+            if (date.equals(today.date)) {
+                return today;
+            }
+            if (yesterday != null && date.equals(yesterday.date)) {
+                return yesterday;
+            }
+            return null;
+        }
+
+        /** Adds a switch to the ring of per-minute counters and returns the window total. */
+        private int recordSwitch(Instant at) {
+            long minute = at.getEpochSecond() / 60;
+            int slot = (int) (minute % SWITCH_WINDOW_MINUTES);
+            if (switchMinutes[slot] != minute) {
+                switchMinutes[slot] = minute;
+                switchCounts[slot] = 0;
+            }
+            switchCounts[slot]++;
+
+            int total = 0;
+            for (int i = 0; i < SWITCH_WINDOW_MINUTES; i++) {
+                if (switchMinutes[i] > minute - SWITCH_WINDOW_MINUTES) {
+                    total += switchCounts[i];
+                }
+            }
+            return total;
+        }
+
+        private void updateCategoryDrift(Digest digest, Instant at, int category) {
+            heartbeats++;
+            for (int i = 0; i < ActivityService.CATEGORIES.size(); i++) {
+                double observed = i == category ? 1.0 : 0.0;
+                baseline[i] += BASELINE_ALPHA * (observed - baseline[i]);
+                recent[i] += RECENT_ALPHA * (observed - recent[i]);
+            }
+            if (heartbeats < DRIFT_WARMUP_HEARTBEATS || !cooledDown(lastDriftAlert, at)) {
+                return;
+            }
+
+            // Total variation distance between the two normalised category distributions
+            double baselineSum = 0;
+            double recentSum = 0;
+            for (int i = 0; i < ActivityService.CATEGORIES.size(); i++) {
+                baselineSum += baseline[i];
+                recentSum += recent[i];
+            }
+            double distance = 0;
+            for (int i = 0; i < ActivityService.CATEGORIES.size(); i++) {
+                distance += Math.abs(recent[i] / recentSum - baseline[i] / baselineSum);
+            }
+            distance /= 2;
+
+            if (distance >= driftThreshold) {
+                lastDriftAlert = at;
+                alert(digest, at, "CATEGORY_DRIFT", "Mostly " + ActivityService.CATEGORIES.get(argMax(recent))
+                        + " in the last few minutes, usually " + ActivityService.CATEGORIES.get(argMax(baseline)));
+            }
+        }
+
+        private void alert(Digest digest, Instant at, String type, String message) {
+            digest.alertCount++;
+            alerts.addFirst(ActivityAlertDto.builder()
+                    .type(type)
+                    .message(message)
+                    .occurredAt(LocalDateTime.ofInstant(at, ZoneOffset.UTC))
+                    .build());
+            while (alerts.size() > MAX_ALERTS) {
+                alerts.removeLast();
+            }
+        }
+
+        synchronized MemberInsightsDto snapshot(String username, String fullName) {
+            // Digests only roll over on the next heartbeat, so line them up with the current date
+            LocalDate currentDate = LocalDate.now(zone);
+            Digest current = digestOn(currentDate);
+            Digest previous = digestOn(currentDate.minusDays(1));
+            return MemberInsightsDto.builder()
+                    .username(username)
+                    .fullName(fullName)
+                    .alerts(new ArrayList<>(alerts))
+                    .today(current != null ? current.toDto() : null)
+                    .yesterday(previous != null ? previous.toDto() : null)
+                    .build();
+        }
+
+        private Digest digestOn(LocalDate date) {
+            if (today != null && today.date.equals(date)) {
+                return today;
+            }
+            if (yesterday != null && yesterday.date.equals(date)) {
+                return yesterday;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.worktracker.service;
+
+import java.util.Map;
+
+/**
+ * Heartbeat counts for one user over a time window, already rebased into the viewer's zone.
+ *
+ * @param applicationCounts counts keyed by raw application name (a null key holds heartbeats
+ *                          that reported no application)
+ * @param hourlyCounts      24 counts indexed by local hour of day
+ * @param totalCount        total heartbeats in the window
+ */
+public record ActivityWindow(Map<String, Long> applicationCounts, long[] hourlyCounts, long totalCount) {
+}
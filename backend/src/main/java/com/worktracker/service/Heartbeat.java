@@ -0,0 +1,35 @@
+package com.worktracker.service;
+
+import java.time.Instant;
+
+/**
+ * A stored heartbeat. Published as a local application event to the stream consumers
+ * ({@link ActivityStreamAnalyzer}, {@link LeaderboardService}) and carried between
+ * nodes as one "username|epochMillis|applicationName" line of a heartbeat batch.
+ */
+record Heartbeat(String username, Instant at, String applicationName) {
+
+    private static final int MAX_LINE_APP_LENGTH = 200;
+
+    String toLine() {
+        String app = applicationName == null ? "" : applicationName.replace('\n', ' ').replace('\r', ' ');
+        if (app.length() > MAX_LINE_APP_LENGTH) {
+            app = app.substring(0, MAX_LINE_APP_LENGTH);
+        }
+        return username + "|" + at.toEpochMilli() + "|" + app;
+    }
+
+    /** Returns null when the line is malformed. */
+    static Heartbeat fromLine(String line) {
+        String[] parts = line.split("\\|", 3);
+        if (parts.length < 3 || parts[0].isEmpty()) {
+            return null;
+        }
+        try {
+            Instant at = Instant.ofEpochMilli(Long.parseLong(parts[1]));
+            return new Heartbeat(parts[0], at, parts[2].isEmpty() ? null : parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
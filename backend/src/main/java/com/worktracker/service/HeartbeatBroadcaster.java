@@ -0,0 +1,112 @@
+package com.worktracker.service;
+
+import com.worktracker.cluster.ClusterEvent;
+import com.worktracker.cluster.ClusterEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Delivers stored heartbeats to the stream consumers on every node. This node's consumers
+ * get each heartbeat right after its transaction commits; the other nodes get this node's
+ * heartbeats in one NOTIFY per flush interval. The ingest transaction itself never
+ * notifies: PostgreSQL serialises the commits of all notifying transactions under one
+ * database-wide lock, which would queue every heartbeat in the cluster behind each other.
+ *
+ * <p>Other nodes therefore see a heartbeat up to one interval late, and lose at most one
+ * interval's worth if this node stops abruptly. Both only affect their in-memory analysis.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HeartbeatBroadcaster {
+
+    // pg_notify payloads must stay under 8000 bytes, including the cluster event envelope
+    private static final int MAX_BATCH_BYTES = 7000;
+
+    private final ClusterEventPublisher clusterEventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Queue<Heartbeat> pending = new ConcurrentLinkedQueue<>();
+
+    /** Delivers the heartbeat once the surrounding transaction (if any) commits. */
+    public void record(Heartbeat heartbeat) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(heartbeat);
+                }
+            });
+        } else {
+            deliver(heartbeat);
+        }
+    }
+
+    private void deliver(Heartbeat heartbeat) {
+        applicationEventPublisher.publishEvent(heartbeat);
+        if (clusterEventPublisher.isEnabled()) {
+            pending.add(heartbeat);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${worktracker.cluster.heartbeat-batch-interval-ms:1000}")
+    public void flush() {
+        StringBuilder batch = new StringBuilder();
+        int batchBytes = 0;
+        Heartbeat heartbeat;
+        while ((heartbeat = pending.poll()) != null) {
+            String line = heartbeat.toLine();
+            int lineBytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (batchBytes + lineBytes > MAX_BATCH_BYTES && batchBytes > 0) {
+                send(batch.toString());
+                batch.setLength(0);
+                batchBytes = 0;
+            }
+            batch.append(line).append('\n');
+            batchBytes += lineBytes;
+        }
+        if (batchBytes > 0) {
+            send(batch.toString());
+        }
+    }
+
+    private void send(String batch) {
+        try {
+            clusterEventPublisher.broadcast(ClusterEvent.Type.HEARTBEAT_BATCH, null, batch);
+        } catch (RuntimeException e) {
+            // Not retried: the rows are stored, only other nodes' in-memory analysis misses them
+            log.warn("Failed to broadcast {} heartbeats: {}", batch.lines().count(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+        if (event.type() != ClusterEvent.Type.HEARTBEAT_BATCH || !event.remote() || event.payload() == null) {
+            return;
+        }
+        event.payload().lines().forEach(line -> {
+            Heartbeat heartbeat = Heartbeat.fromLine(line);
+            if (heartbeat == null) {
+                log.warn("Ignoring malformed heartbeat line: {}", line);
+                return;
+            }
+            applicationEventPublisher.publishEvent(heartbeat);
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,281 @@
+package com.worktracker.service;
+
+import com.worktracker.cluster.ClusterEvent;
+import com.worktracker.dto.LeaderboardDto;
+import com.worktracker.dto.LeaderboardEntryDto;
+import com.worktracker.repository.ActivityLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Team-wide application and category rankings over any range of UTC days. Each
+ * (user, UTC day) keeps a {@link SpaceSavingSketch} of normalised application names plus
+ * exact per-category counts, so its size is fixed no matter how many distinct names
+ * trackers report. A day is seeded from activity_log the first time it is asked for and
+ * then kept current by the heartbeat stream; a query merges the days it covers. Days
+ * that can no longer receive heartbeats are seeded with one query per user for the whole
+ * period rather than one per day.
+ *
+ * <p>Sketches live in memory for the last {@code retentionDays} UTC days, and periods are
+ * cut to that window. A day seeded while it could still receive heartbeats is provisional:
+ * heartbeats from other nodes can be lost on the way, so it is seeded again once it has
+ * closed. Closed days are therefore exact and read from the database once per node.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private final ActivityLogRepository activityLogRepository;
+
+    private final Map<DayKey, DaySketch> days = new ConcurrentHashMap<>();
+
+    @Value("${worktracker.leaderboard.sketch-capacity:64}")
+    private int sketchCapacity;
+
+    @Value("${worktracker.leaderboard.retention-days:366}")
+    private int retentionDays;
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+        if (event.type() == ClusterEvent.Type.RESYNC) {
+            // Heartbeats may have been missed; only days that can still receive them are affected
+            LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+            days.keySet().removeIf(key -> !key.utcDay().isBefore(yesterday));
+        }
+    }
+
+    @EventListener
+    public void onHeartbeat(Heartbeat heartbeat) {
+        // Days nobody has asked for yet are seeded from the database on first use
+        LocalDateTime at = LocalDateTime.ofInstant(heartbeat.at(), ZoneOffset.UTC);
+        DaySketch day = days.get(new DayKey(heartbeat.username(), at.toLocalDate()));
+        if (day != null) {
+            day.accept(at, heartbeat.applicationName());
+        }
+    }
+
+    /**
+     * Ranks applications and categories across {@code usernames} for the UTC days
+     * [from, to], cut to the retained days up to today.
+     *
+     * @param lastSeen each user's team_member.lastSeen; users without one are read in full
+     */
+    public LeaderboardDto getLeaderboard(Collection<String> usernames, Map<String, LocalDateTime> lastSeen,
+            LocalDate from, LocalDate to, int limit) {
+        if (from.isAfter(to)) {
+            LocalDate swap = from;
+            from = to;
+            to = swap;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (to.isAfter(today)) {
+            to = today;
+        }
+        if (from.isBefore(oldestRetainedDay(today))) {
+            from = oldestRetainedDay(today);
+        }
+        // Heartbeats are stamped by the server, so only yesterday and today still change
+        LocalDate lastClosedDay = today.minusDays(2);
+        int topK = Math.max(1, Math.min(limit, sketchCapacity));
+
+        SpaceSavingSketch applications = new SpaceSavingSketch(sketchCapacity);
+        long[] categoryCounts = new long[ActivityService.CATEGORIES.size()];
+        long totalCount = 0;
+        for (String username : usernames) {
+            // Nothing can have been logged after lastSeen; without one, every day is read
+            LocalDateTime userLastSeen = lastSeen.get(username);
+            LocalDate userTo = userLastSeen != null && userLastSeen.toLocalDate().isBefore(to)
+                    ? userLastSeen.toLocalDate() : to;
+            seedClosedDays(username, from, userTo.isAfter(lastClosedDay) ? lastClosedDay : userTo);
+            for (LocalDate day = from; !day.isAfter(userTo); day = day.plusDays(1)) {
+                totalCount += getDay(username, day, day.isAfter(lastClosedDay))
+                        .mergeInto(applications, categoryCounts);
+            }
+        }
+
+        List<LeaderboardEntryDto> applicationEntries = new ArrayList<>();
+        for (SpaceSavingSketch.Estimate estimate : applications.top(topK)) {
+            applicationEntries.add(toEntry(estimate.item(), estimate.count(), estimate.error(), totalCount));
+        }
+        List<LeaderboardEntryDto> categoryEntries = new ArrayList<>();
+        for (int i = 0; i < categoryCounts.length; i++) {
+            if (categoryCounts[i] > 0) {
+                categoryEntries.add(toEntry(ActivityService.CATEGORIES.get(i), categoryCounts[i], 0,
+                        totalCount));
+            }
+        }
+        categoryEntries.sort((a, b) -> Long.compare(b.getMinutes(), a.getMinutes()));
+
+        return LeaderboardDto.builder()
+                .from(from.toString())
+                .to(to.toString())
+                .totalActiveMinutes(totalCount * ActivityService.SECONDS_PER_LOG / 60)
+                .applications(applicationEntries)
+                .categories(categoryEntries)
+                .build();
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void evictExpired() {
+        LocalDate cutoff = oldestRetainedDay(LocalDate.now(ZoneOffset.UTC));
+        days.keySet().removeIf(key -> key.utcDay().isBefore(cutoff));
+    }
+
+    private LocalDate oldestRetainedDay(LocalDate today) {
+        return today.minusDays(retentionDays - 1);
+    }
+
+    /**
+     * Seeds the user's days in [from, through] that are not seeded yet, or only
+     * provisionally, with a single query. Only for days that no longer receive heartbeats:
+     * nothing can arrive between the query and the sketches taking its rows.
+     */
+    private void seedClosedDays(String username, LocalDate from, LocalDate through) {
+        while (!from.isAfter(through) && isFinal(username, from)) {
+            from = from.plusDays(1);
+        }
+        while (!through.isBefore(from) && isFinal(username, through)) {
+            through = through.minusDays(1);
+        }
+        if (from.isAfter(through)) {
+            return;
+        }
+        Map<LocalDate, List<Object[]>> rowsByDay = new HashMap<>();
+        for (Object[] row : activityLogRepository.countByDayAndApplication(username, from.atStartOfDay(),
+                through.plusDays(1).atStartOfDay())) {
+            rowsByDay.computeIfAbsent(toLocalDate(row[0]), day -> new ArrayList<>()).add(row);
+        }
+        for (LocalDate day = from; !day.isAfter(through); day = day.plusDays(1)) {
+            // Days seeded for good in the middle of the range keep their own counts
+            List<Object[]> rows = rowsByDay.getOrDefault(day, List.of());
+            days.compute(new DayKey(username, day),
+                    (key, existing) -> existing == null || existing.isProvisional() ? new DaySketch() : existing)
+                    .seed(() -> rows, false);
+        }
+    }
+
+    private boolean isFinal(String username, LocalDate utcDay) {
+        DaySketch day = days.get(new DayKey(username, utcDay));
+        return day != null && day.isSeeded() && !day.isProvisional();
+    }
+
+    private DaySketch getDay(String username, LocalDate utcDay, boolean openDay) {
+        DaySketch day = registerDay(username, utcDay);
+        day.seed(() -> activityLogRepository.countByDayAndApplication(username, utcDay.atStartOfDay(),
+                utcDay.plusDays(1).atStartOfDay()), openDay);
+        return day;
+    }
+
+    private DaySketch registerDay(String username, LocalDate utcDay) {
+        DayKey key = new DayKey(username, utcDay);
+        DaySketch day = days.get(key);
+        if (day == null) {
+            // Registered before seeding so heartbeats arriving meanwhile wait on its lock
+            DaySketch fresh = new DaySketch();
+            day = days.putIfAbsent(key, fresh);
+            if (day == null) {
+                day = fresh;
+            }
+        }
+        return day;
+    }
+
+    private static LeaderboardEntryDto toEntry(String name, long count, long error, long totalCount) {
+        return LeaderboardEntryDto.builder()
+                .name(name)
+                .minutes(count * ActivityService.SECONDS_PER_LOG / 60)
+                .percentage(totalCount == 0 ? 0 : count * 100.0 / totalCount)
+                .maxErrorMinutes(error * ActivityService.SECONDS_PER_LOG / 60)
+                .build();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private record DayKey(String username, LocalDate utcDay) {
+    }
+
+    private final class DaySketch {
+        private final SpaceSavingSketch applications = new SpaceSavingSketch(sketchCapacity);
+        private final long[] categoryCounts = new long[ActivityService.CATEGORIES.size()];
+        private long totalCount;
+        private boolean seeded;
+        // Seeded while the day was open, so missed remote heartbeats may be absent
+        private volatile boolean provisional;
+        // Heartbeats at or before this were already counted by the seed query
+        private LocalDateTime seededThrough;
+
+        synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        boolean isProvisional() {
+            return provisional;
+        }
+
+        /** Loads the day's {utcDay, applicationName, count, lastTimestamp} rows unless already seeded. */
+        synchronized void seed(Supplier<List<Object[]>> query, boolean openDay) {
+            if (seeded) {
+                return;
+            }
+            List<Object[]> rows = new ArrayList<>(query.get());
+            // Largest first, so the heaviest applications get exact counters
+            rows.sort((a, b) -> Long.compare(((Number) b[2]).longValue(), ((Number) a[2]).longValue()));
+            for (Object[] row : rows) {
+                add((String) row[1], ((Number) row[2]).longValue());
+                LocalDateTime last = toLocalDateTime(row[3]);
+                if (seededThrough == null || last.isAfter(seededThrough)) {
+                    seededThrough = last;
+                }
+            }
+            provisional = openDay;
+            seeded = true;
+        }
+
+        synchronized void accept(LocalDateTime at, String applicationName) {
+            // Before seeding, the heartbeat's row is already committed and will be read by the seed
+            if (!seeded || (seededThrough != null && !at.isAfter(seededThrough))) {
+                return;
+            }
+            add(applicationName, 1);
+        }
+
+        synchronized long mergeInto(SpaceSavingSketch team, long[] teamCategoryCounts) {
+            team.merge(applications);
+            for (int i = 0; i < categoryCounts.length; i++) {
+                teamCategoryCounts[i] += categoryCounts[i];
+            }
+            return totalCount;
+        }
+
+        private void add(String applicationName, long count) {
+            totalCount += count;
+            categoryCounts[ActivityService.categoryIndex(applicationName)] += count;
+            // Heartbeats without an application count towards totals but are not ranked
+            if (applicationName != null) {
+                applications.offer(ActivityService.normalizeAppName(applicationName), count);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.worktracker.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving top-k summary (Metwally et al.). Holds at most {@code capacity} counters
+ * however many distinct items are offered. A reported count over-estimates the true
+ * count by no more than its error, and every item whose true count exceeds
+ * total / capacity is present. Sketches merge without losing either guarantee
+ * (Agarwal et al., "Mergeable Summaries"), so per-day sketches can be combined into
+ * any period at query time. Not thread-safe.
+ */
+final class SpaceSavingSketch {
+
+    record Estimate(String item, long count, long error) {
+    }
+
+    private static final class Counter {
+        long count;
+        long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Map.Entry<String, Counter>> BY_COUNT_DESC =
+            Comparator.comparingLong((Map.Entry<String, Counter> entry) -> entry.getValue().count).reversed();
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void offer(String item, long weight) {
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.count += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(item, new Counter(weight, 0));
+            return;
+        }
+        // Full: the new item takes over the smallest counter and inherits its count as error
+        Map.Entry<String, Counter> smallest = null;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            if (smallest == null || entry.getValue().count < smallest.getValue().count) {
+                smallest = entry;
+            }
+        }
+        long floor = smallest.getValue().count;
+        counters.remove(smallest.getKey());
+        counters.put(item, new Counter(floor + weight, floor));
+    }
+
+    /** Adds {@code other} into this sketch, keeping the {@code capacity} largest counters. */
+    void merge(SpaceSavingSketch other) {
+        // An item missing from a full sketch may still have occurred up to its minimum count
+        long thisFloor = minCount();
+        long otherFloor = other.minCount();
+
+        Map<String, Counter> merged = new HashMap<>(counters.size() + other.counters.size());
+        counters.forEach((item, counter) -> {
+            Counter theirs = other.counters.get(item);
+            merged.put(item, theirs != null
+                    ? new Counter(counter.count + theirs.count, counter.error + theirs.error)
+                    : new Counter(counter.count + otherFloor, counter.error + otherFloor));
+        });
+        other.counters.forEach((item, theirs) -> merged.computeIfAbsent(item,
+                k -> new Counter(theirs.count + thisFloor, theirs.error + thisFloor)));
+
+        counters.clear();
+        merged.entrySet().stream()
+                .sorted(BY_COUNT_DESC)
+                .limit(capacity)
+                .forEach(entry -> counters.put(entry.getKey(), entry.getValue()));
+    }
+
+    /** The largest {@code limit} counters, highest count first. */
+    List<Estimate> top(int limit) {
+        List<Estimate> estimates = new ArrayList<>();
+        counters.entrySet().stream()
+                .sorted(BY_COUNT_DESC)
+                .limit(limit)
+                .forEach(entry -> estimates.add(
+                        new Estimate(entry.getKey(), entry.getValue().count, entry.getValue().error)));
+        return estimates;
+    }
+
+    private long minCount() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (Counter counter : counters.values()) {
+            min = Math.min(min, counter.count);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,72 @@
+package com.worktracker.service;
+
+import com.worktracker.repository.TeamMemberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces heartbeat seconds per user in memory and periodically adds the whole
+ * minutes to TeamMember.totalWorkingMinutes with a single relative UPDATE. Heartbeats
+ * never touch the counter row, and each node only ever adds its own share, so nodes
+ * cannot lose each other's increments. Sub-minute remainders carry over to the next
+ * flush; whatever is left when the node stops (under a minute per user) is dropped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkingTimeAccumulator {
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final Map<String, LongAdder> pendingSeconds = new ConcurrentHashMap<>();
+
+    /** Counts the seconds once the surrounding transaction (if any) commits. */
+    public void record(String username, long seconds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(username, seconds);
+                }
+            });
+        } else {
+            add(username, seconds);
+        }
+    }
+
+    private void add(String username, long seconds) {
+        pendingSeconds.computeIfAbsent(username, k -> new LongAdder()).add(seconds);
+    }
+
+    @Scheduled(fixedDelayString = "${worktracker.working-time.flush-interval-ms:60000}")
+    public void flush() {
+        pendingSeconds.forEach((username, seconds) -> {
+            long minutes = seconds.sum() / 60;
+            if (minutes == 0) {
+                return;
+            }
+            // Take the minutes out before writing; concurrent heartbeats keep adding to the remainder
+            seconds.add(-minutes * 60);
+            try {
+                teamMemberRepository.addWorkingMinutes(username, minutes);
+            } catch (RuntimeException e) {
+                seconds.add(minutes * 60);
+                log.warn("Failed to flush {} working minutes for {}: {}", minutes, username, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
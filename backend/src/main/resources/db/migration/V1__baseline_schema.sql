@@ -0,0 +1,27 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs on empty databases.
+
+CREATE TABLE activity_log (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    application_name VARCHAR(255),
+    timestamp TIMESTAMP(6),
+    username VARCHAR(255)
+);
+
+CREATE INDEX idx_activity_username ON activity_log (username);
+CREATE INDEX idx_activity_timestamp ON activity_log (timestamp);
+CREATE INDEX idx_activity_username_timestamp ON activity_log (username, timestamp);
+
+CREATE TABLE team_member (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    current_application VARCHAR(255),
+    full_name VARCHAR(255),
+    is_currently_working BOOLEAN,
+    last_seen TIMESTAMP(6),
+    total_working_minutes BIGINT,
+    username VARCHAR(255),
+    CONSTRAINT uk_team_member_username UNIQUE (username)
+);
+
+CREATE INDEX idx_member_username ON team_member (username);
@@ -0,0 +1,2 @@
+-- Databases baselined from a ddl-auto=update schema may predate the lastSeen column.
+ALTER TABLE team_member ADD COLUMN IF NOT EXISTS last_seen TIMESTAMP(6);
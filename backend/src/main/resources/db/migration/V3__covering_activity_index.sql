@@ -0,0 +1,19 @@
+-- Day-window queries filter on (username, timestamp) and the rollup query only reads
+-- application_name on top of that, so carrying it in the index turns them into
+-- index-only scans. The new index also makes the single-column username index and
+-- the old composite redundant, and the unique constraint already indexes
+-- team_member.username.
+--
+-- CONCURRENTLY keeps heartbeat inserts flowing while the index builds on a live
+-- activity_log. Flyway runs this script outside a transaction, so it must contain
+-- only statements that are allowed there. A failed concurrent build leaves an
+-- INVALID index behind; the first statement clears it so the migration can be retried.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_activity_username_timestamp_app;
+
+CREATE INDEX CONCURRENTLY idx_activity_username_timestamp_app
+    ON activity_log (username, timestamp) INCLUDE (application_name);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_activity_username;
+DROP INDEX CONCURRENTLY IF EXISTS idx_activity_username_timestamp;
+DROP INDEX CONCURRENTLY IF EXISTS idx_member_username;
@@ -0,0 +1,7 @@
+-- Members that have not sent a heartbeat since V2 added last_seen still have it NULL,
+-- although their activity is in activity_log. Readers prune days after last_seen, so
+-- fill it in from the newest stored heartbeat. Each lookup is an index-only scan of
+-- the covering index from V3.
+UPDATE team_member
+SET last_seen = (SELECT MAX(a.timestamp) FROM activity_log a WHERE a.username = team_member.username)
+WHERE last_seen IS NULL;
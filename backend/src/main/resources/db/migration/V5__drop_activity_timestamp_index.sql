@@ -0,0 +1,5 @@
+-- Every activity_log query filters on username, so idx_activity_timestamp is never read
+-- but is still updated on every heartbeat insert. CONCURRENTLY keeps inserts flowing;
+-- like V3, this script runs outside a transaction.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_activity_timestamp;
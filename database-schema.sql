@@ -14,10 +14,9 @@ CREATE TABLE activity_log (
     timestamp TIMESTAMP NOT NULL
 );
 
--- Indexes for performance
-CREATE INDEX idx_activity_username ON activity_log(username);
-CREATE INDEX idx_activity_timestamp ON activity_log(timestamp);
-CREATE INDEX idx_activity_username_timestamp ON activity_log(username, timestamp);
+-- Indexes for performance (the live schema is managed by the Flyway migrations in
+-- backend/src/main/resources/db/migration)
+CREATE INDEX idx_activity_username_timestamp_app ON activity_log(username, timestamp) INCLUDE (application_name);
 
 -- =====================================================
 -- 2. TeamMember Table (User information)
@@ -26,9 +25,16 @@ CREATE TABLE team_member (
     id BIGSERIAL PRIMARY KEY,
     username VARCHAR(255) UNIQUE NOT NULL,
     full_name VARCHAR(255) NOT NULL,
+    total_working_minutes BIGINT DEFAULT 0,
+    is_currently_working BOOLEAN DEFAULT false,
+    current_application VARCHAR(255),
     last_seen TIMESTAMP
 );
 
+-- Heartbeats upsert on the unique username instead of find-then-save:
+-- INSERT INTO team_member (...) VALUES (...)
+-- ON CONFLICT (username) DO UPDATE SET last_seen = GREATEST(team_member.last_seen, EXCLUDED.last_seen), ...
+
 -- =====================================================
 -- 3. WorkSession Table (Session tracking)
 -- =====================================================
@@ -6,6 +6,11 @@ function getTzOffsetMinutes() {
   return -new Date().getTimezoneOffset();
 }
 
+function getTimeZone() {
+  // IANA zone id (e.g. "Asia/Kolkata") lets the backend handle DST; the offset stays as a fallback.
+  return encodeURIComponent(Intl.DateTimeFormat().resolvedOptions().timeZone || '');
+}
+
 class ApiError extends Error {
   constructor(message, status, data = null) {
     super(message);
@@ -40,19 +45,19 @@ async function handleResponse(response) {
 export const api = {
   async getSummary(date) {
     const tzOffsetMinutes = getTzOffsetMinutes();
-    const response = await fetch(`${API_URL}/summary?date=${date}&tzOffsetMinutes=${tzOffsetMinutes}`);
+    const response = await fetch(`${API_URL}/summary?date=${date}&tzOffsetMinutes=${tzOffsetMinutes}&tz=${getTimeZone()}`);
     return handleResponse(response);
   },
 
   async getDashboard(username, date) {
     const tzOffsetMinutes = getTzOffsetMinutes();
-    const response = await fetch(`${API_URL}/dashboard/${username}?date=${date}&tzOffsetMinutes=${tzOffsetMinutes}`);
+    const response = await fetch(`${API_URL}/dashboard/${username}?date=${date}&tzOffsetMinutes=${tzOffsetMinutes}&tz=${getTimeZone()}`);
     return handleResponse(response);
   },
 
   async getWeeklySummary(date) {
     const tzOffsetMinutes = getTzOffsetMinutes();
-    const response = await fetch(`${API_URL}/weekly-summary?date=${date}&tzOffsetMinutes=${tzOffsetMinutes}`);
+    const response = await fetch(`${API_URL}/weekly-summary?date=${date}&tzOffsetMinutes=${tzOffsetMinutes}&tz=${getTimeZone()}`);
     return handleResponse(response);
   },
 